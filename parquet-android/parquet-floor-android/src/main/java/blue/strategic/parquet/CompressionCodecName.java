@@ -7,11 +7,22 @@ package blue.strategic.parquet;
  * @see org.apache.parquet.hadoop.metadata.CompressionCodecName
  */
 public enum CompressionCodecName {
-    UNCOMPRESSED,
-    SNAPPY,
-    GZIP,
-    LZO,
-    BROTLI,
-    LZ4,
-    ZSTD
+    UNCOMPRESSED(org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED),
+    SNAPPY(org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY),
+    GZIP(org.apache.parquet.hadoop.metadata.CompressionCodecName.GZIP),
+    LZO(org.apache.parquet.hadoop.metadata.CompressionCodecName.LZO),
+    BROTLI(org.apache.parquet.hadoop.metadata.CompressionCodecName.BROTLI),
+    LZ4(org.apache.parquet.hadoop.metadata.CompressionCodecName.LZ4),
+    ZSTD(org.apache.parquet.hadoop.metadata.CompressionCodecName.ZSTD);
+
+    private final org.apache.parquet.hadoop.metadata.CompressionCodecName parquetCodecName;
+
+    CompressionCodecName(org.apache.parquet.hadoop.metadata.CompressionCodecName parquetCodecName) {
+        this.parquetCodecName = parquetCodecName;
+    }
+
+    /** @return Parquet's codec name for this codec. Mapped once, so writers need no name lookup. */
+    public org.apache.parquet.hadoop.metadata.CompressionCodecName getParquetCodecName() {
+        return parquetCodecName;
+    }
 }
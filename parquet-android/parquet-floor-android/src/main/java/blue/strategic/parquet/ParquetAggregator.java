@@ -0,0 +1,224 @@
+package blue.strategic.parquet;
+
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.example.DummyRecordConverter;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.sebastiaan.utils.LocalInputFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Answers count, min, max and null count queries from the file footer, without streaming all rows through a {@link Hydrator}.
+ * Row counts come from row group metadata.
+ * Min, max and null counts come from column chunk statistics, or from the column index when chunk statistics are incomplete.
+ * Only when neither is usable, the pages of that single column chunk are decoded.
+ *
+ * All functions optionally take a {@link FilterCompat.Filter}.
+ * Row groups which cannot contain matching rows according to their statistics are excluded from the aggregate.
+ * Note that remaining row groups are aggregated as a whole, i.e. the filter works at row group granularity.
+ */
+public final class ParquetAggregator {
+    private ParquetAggregator() {}
+
+    /** @return Amount of rows in given file. */
+    public static long count(File file) throws IOException {
+        return count(file, FilterCompat.NOOP);
+    }
+
+    /** @return Amount of rows in all row groups of given file that may contain rows matching given filter. */
+    public static long count(File file, FilterCompat.Filter filter) throws IOException {
+        try (ParquetFileReader reader = open(file, filter)) {
+            long count = 0L;
+            for (BlockMetaData block : reader.getRowGroups())
+                count += block.getRowCount();
+            return count;
+        }
+    }
+
+    /** @return Smallest non-null value of given column, or `null` if the column contains only nulls. */
+    public static Object min(File file, String column) throws IOException {
+        return aggregate(file, column, FilterCompat.NOOP).getMin();
+    }
+
+    /** @return Largest non-null value of given column, or `null` if the column contains only nulls. */
+    public static Object max(File file, String column) throws IOException {
+        return aggregate(file, column, FilterCompat.NOOP).getMax();
+    }
+
+    /** @return Amount of nulls in given column. */
+    public static long nullCount(File file, String column) throws IOException {
+        return aggregate(file, column, FilterCompat.NOOP).getNullCount();
+    }
+
+    /** @return Min, max and null count of given column, computed in a single pass over the footer. */
+    public static ColumnAggregate aggregate(File file, String column) throws IOException {
+        return aggregate(file, column, FilterCompat.NOOP);
+    }
+
+    /**
+     * Computes min, max and null count of given column.
+     * @param file File to aggregate.
+     * @param column Name of the column to aggregate.
+     * @param filter Row group filter. Use {@link FilterCompat#NOOP} to aggregate all row groups.
+     * @return Aggregate over all row groups of given file that may contain rows matching given filter.
+     */
+    public static ColumnAggregate aggregate(File file, String column, FilterCompat.Filter filter) throws IOException {
+        try (ParquetFileReader reader = open(file, filter)) {
+            final MessageType schema = reader.getFileMetaData().getSchema();
+            final ColumnDescriptor descriptor = schema.getColumnDescription(new String[]{column});
+            final ColumnPath path = ColumnPath.get(column);
+
+            Statistics<?> total = Statistics.createStats(descriptor.getPrimitiveType());
+            long rowCount = 0L;
+            final List<BlockMetaData> blocks = reader.getRowGroups();
+            for (int blockIndex = 0; blockIndex < blocks.size(); ++blockIndex) {
+                final BlockMetaData block = blocks.get(blockIndex);
+                rowCount += block.getRowCount();
+                for (ColumnChunkMetaData chunk : block.getColumns()) {
+                    if (chunk.getPath().equals(path)) {
+                        total.mergeStatistics(readStatistics(reader, blockIndex, chunk, descriptor));
+                        break;
+                    }
+                }
+            }
+            return new ColumnAggregate(descriptor.getPrimitiveType(), total, rowCount);
+        }
+    }
+
+    /**
+     * Reads complete statistics of a single column chunk.
+     * We first try the chunk statistics, then the column index, and finally decode the chunk pages.
+     */
+    private static Statistics<?> readStatistics(ParquetFileReader reader, int blockIndex, ColumnChunkMetaData chunk, ColumnDescriptor descriptor) throws IOException {
+        final Statistics<?> chunkStatistics = chunk.getStatistics();
+        if (isComplete(chunkStatistics, chunk.getValueCount()))
+            return chunkStatistics;
+
+        // Binary min/max values in the column index may be truncated, so those are inexact.
+        final PrimitiveType.PrimitiveTypeName typeName = descriptor.getPrimitiveType().getPrimitiveTypeName();
+        if (typeName != PrimitiveType.PrimitiveTypeName.BINARY && typeName != PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+            final Statistics<?> indexStatistics = readColumnIndexStatistics(reader.readColumnIndex(chunk), descriptor.getPrimitiveType());
+            if (isComplete(indexStatistics, chunk.getValueCount()))
+                return indexStatistics;
+        }
+        return readPageStatistics(reader, blockIndex, descriptor, chunk.getValueCount());
+    }
+
+    /** @return `true` if given statistics contain a null count, and a min and max if there are non-null values. */
+    private static boolean isComplete(Statistics<?> statistics, long valueCount) {
+        return statistics != null && statistics.isNumNullsSet() && (statistics.hasNonNullValue() || statistics.getNumNulls() == valueCount);
+    }
+
+    /** @return Statistics merged over all pages in given column index, or `null` if there is no (usable) column index. */
+    static Statistics<?> readColumnIndexStatistics(ColumnIndex columnIndex, PrimitiveType type) {
+        if (columnIndex == null || columnIndex.getNullCounts() == null)
+            return null;
+        final Statistics<?> statistics = Statistics.createStats(type);
+        final List<Boolean> nullPages = columnIndex.getNullPages();
+        for (int page = 0; page < nullPages.size(); ++page) {
+            Statistics.Builder builder = Statistics.getBuilderForReading(type).withNumNulls(columnIndex.getNullCounts().get(page));
+            if (!nullPages.get(page))
+                builder = builder.withMin(toBytes(columnIndex.getMinValues().get(page))).withMax(toBytes(columnIndex.getMaxValues().get(page)));
+            final Statistics<?> pageStatistics = builder.build();
+            if (!nullPages.get(page) && !pageStatistics.hasNonNullValue())
+                return null; // e.g. floating point pages with NaN values have no usable min/max.
+            statistics.mergeStatistics(pageStatistics);
+        }
+        return statistics;
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /** @return Statistics computed by decoding all values of given column in given row group. */
+    private static Statistics<?> readPageStatistics(ParquetFileReader reader, int blockIndex, ColumnDescriptor descriptor, long valueCount) throws IOException {
+        final MessageType projection = Types.buildMessage().addField(descriptor.getPrimitiveType()).named("aggregate");
+        reader.setRequestedSchema(projection);
+        final PageReadStore pages = reader.readRowGroup(blockIndex);
+        final ColumnReader columnReader = new ColumnReadStoreImpl(pages, new DummyRecordConverter(projection).getRootConverter(), projection, reader.getFileMetaData().getCreatedBy()).getColumnReader(descriptor);
+
+        final Statistics<?> statistics = Statistics.createStats(descriptor.getPrimitiveType());
+        for (long i = 0; i < valueCount; ++i) {
+            if (columnReader.getCurrentDefinitionLevel() < descriptor.getMaxDefinitionLevel()) {
+                statistics.incrementNumNulls();
+            } else {
+                switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+                    case INT32: statistics.updateStats(columnReader.getInteger()); break;
+                    case INT64: statistics.updateStats(columnReader.getLong()); break;
+                    case DOUBLE: statistics.updateStats(columnReader.getDouble()); break;
+                    case BOOLEAN: statistics.updateStats(columnReader.getBoolean()); break;
+                    case FLOAT: statistics.updateStats(columnReader.getFloat()); break;
+                    case BINARY:
+                    case FIXED_LEN_BYTE_ARRAY:
+                    case INT96: statistics.updateStats(columnReader.getBinary()); break;
+                }
+            }
+            columnReader.consume();
+        }
+        return statistics;
+    }
+
+    private static ParquetFileReader open(File file, FilterCompat.Filter filter) throws IOException {
+        return ParquetFileReader.open(new LocalInputFile(file), ParquetReadOptions.builder().withRecordFilter(filter).build());
+    }
+
+    /** Min, max and null count of a single column. */
+    public static final class ColumnAggregate {
+        private final PrimitiveType type;
+        private final Statistics<?> statistics;
+        private final long rowCount;
+
+        private ColumnAggregate(PrimitiveType type, Statistics<?> statistics, long rowCount) {
+            this.type = type;
+            this.statistics = statistics;
+            this.rowCount = rowCount;
+        }
+
+        /** @return Smallest non-null value, or `null` if the column contains only nulls. Strings are returned as {@link String}. */
+        public Object getMin() {
+            return statistics.hasNonNullValue() ? convert(statistics.genericGetMin()) : null;
+        }
+
+        /** @return Largest non-null value, or `null` if the column contains only nulls. Strings are returned as {@link String}. */
+        public Object getMax() {
+            return statistics.hasNonNullValue() ? convert(statistics.genericGetMax()) : null;
+        }
+
+        /** @return Amount of nulls in the column. */
+        public long getNullCount() {
+            return statistics.getNumNulls();
+        }
+
+        /** @return Amount of rows in the aggregated row groups. */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        private Object convert(Object value) {
+            if (value instanceof Binary && LogicalTypeAnnotation.stringType().equals(type.getLogicalTypeAnnotation()))
+                return ((Binary) value).toStringUsingUTF8();
+            return value;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.PrimitiveType;
+import org.sebastiaan.utils.WriterMemoryManager;
 
 import java.io.Closeable;
 import java.io.File;
@@ -20,12 +21,17 @@ import java.util.Collections;
 
 /**
  * Override of original blue.strategic.parquet.ParquetWriter class: Made `CompressionCodecName` configurable.
+ * Open writers register with the {@link WriterMemoryManager}, which shrinks their row group sizes to fit a process-wide memory budget.
  * Override necessary, because the original author made their implementation impossible to extend upon.
  * @param <T>
  */
 public class ParquetWriter<T> implements Closeable {
 
+    /** Row group size we request from the {@link WriterMemoryManager}. */
+    protected static final long ROW_GROUP_SIZE = org.apache.parquet.hadoop.ParquetWriter.DEFAULT_BLOCK_SIZE;
+
     protected org.apache.parquet.hadoop.ParquetWriter<T> writer;
+    protected WriterMemoryManager.Allocation allocation;
 
     public static <T> ParquetWriter<T> writeFile(MessageType schema, File out, Dehydrator<T> dehydrator) throws IOException {
         return writeFile(schema, out, dehydrator, CompressionCodecName.SNAPPY);
@@ -71,18 +77,38 @@ public class ParquetWriter<T> implements Closeable {
         this.writer = new Builder<T>(outputFile)
                 .withType(schema)
                 .withDehydrator(dehydrator)
-                .withCompressionCodec(org.apache.parquet.hadoop.metadata.CompressionCodecName.valueOf(codec.name()))
+                .withCompressionCodec(codec.getParquetCodecName())
                 .withWriterVersion(ParquetProperties.WriterVersion.PARQUET_2_0)
+                .withRowGroupSize(ROW_GROUP_SIZE)
                 .build();
+        this.allocation = WriterMemoryManager.getInstance().register(this.writer, ROW_GROUP_SIZE);
+        try {
+            this.allocation.apply();
+        } catch (RuntimeException e) {
+            // Never leave a failed writer registered: it would shrink the share of every other writer forever.
+            WriterMemoryManager.getInstance().unregister(this.allocation);
+            try {
+                this.writer.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
     }
 
     public void write(T record) throws IOException {
+        allocation.apply();
         writer.write(record);
     }
 
     @Override
     public void close() throws IOException {
-        this.writer.close();
+        // Closing flushes the last row group, so we keep our share of the budget until closing finished.
+        try {
+            this.writer.close();
+        } finally {
+            WriterMemoryManager.getInstance().unregister(this.allocation);
+        }
     }
 
     protected static class Builder<T> extends org.apache.parquet.hadoop.ParquetWriter.Builder<T, ParquetWriter.Builder<T>> {
@@ -0,0 +1,40 @@
+package org.sebastiaan.utils;
+
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+
+/** Parquet {@link InputFile} reading a local file, without depending on Hadoop's filesystem classes. */
+public class LocalInputFile implements InputFile {
+    private final File file;
+
+    public LocalInputFile(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public long getLength() {
+        return file.length();
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        return new DelegatingSeekableInputStream(Channels.newInputStream(raf.getChannel())) {
+            @Override
+            public long getPos() throws IOException {
+                return raf.getFilePointer();
+            }
+
+            @Override
+            public void seek(long newPos) throws IOException {
+                raf.seek(newPos);
+            }
+        };
+    }
+}
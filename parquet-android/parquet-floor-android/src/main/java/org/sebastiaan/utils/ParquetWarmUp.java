@@ -0,0 +1,93 @@
+package org.sebastiaan.utils;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import blue.strategic.parquet.CompressionCodecName;
+
+/**
+ * Optional warm-up of parquet-android, to keep initialization costs away from the first read or write after app launch.
+ * Without warm-up, everything below is initialized lazily, on first use.
+ *
+ * Warm-up detects the bytebuffer cleaner strategy, loads and caches the requested compression codecs,
+ * and initializes the largest classes on the read and write paths.
+ */
+public class ParquetWarmUp {
+    /** Classes with expensive initialization on the read and write paths. */
+    private static final String[] CLASSES = {
+            "org.apache.parquet.hadoop.ParquetWriter",
+            "org.apache.parquet.hadoop.ParquetFileWriter",
+            "org.apache.parquet.hadoop.ParquetFileReader",
+            "org.apache.parquet.format.converter.ParquetMetadataConverter",
+            "org.apache.parquet.format.FileMetaData",
+            "org.apache.parquet.column.impl.ColumnWriteStoreV2"
+    };
+
+    private ParquetWarmUp(){}
+
+    /**
+     * Warms up on a background daemon thread.
+     * Warm-up is best-effort: failures are logged at debug level, and never escape the thread.
+     * @param codecs Compression codecs to load. When none are given, we load {@link CompressionCodecName#SNAPPY}, the default codec for writing.
+     * @return Started warm-up thread. Join it to wait for warm-up to finish.
+     */
+    public static Thread warmUp(CompressionCodecName... codecs) {
+        Thread thread = new Thread(() -> {
+            try {
+                warmUpNow(codecs);
+            } catch (Throwable t) { // An uncaught throwable on any thread kills an Android app.
+                LoggerFactory.getLogger("org.sebastiaan.parquet.android").debug("parquet-android - ParquetWarmUp - warmUp: Warm-up failed.", t);
+            }
+        }, "parquet-android-warmup");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Warms up on the calling thread. Failures to load a part are logged at debug level, and the remaining parts still warm up.
+     * @param codecs Compression codecs to load. When none are given, we load {@link CompressionCodecName#SNAPPY}, the default codec for writing.
+     */
+    public static void warmUpNow(CompressionCodecName... codecs) {
+        Logger logger = LoggerFactory.getLogger("org.sebastiaan.parquet.android");
+
+        try {
+            UnsafeProvider.warmUp();
+            WriterMemoryManager.getInstance();
+        } catch (RuntimeException | LinkageError e) {
+            logger.debug("parquet-android - ParquetWarmUp - warmUpNow: Could not initialize parquet-android utilities.", e);
+        }
+
+        for (String className : CLASSES) {
+            try {
+                Class.forName(className);
+            } catch (ClassNotFoundException | LinkageError e) {
+                logger.debug("parquet-android - ParquetWarmUp - warmUpNow: Could not load class {}.", className, e);
+            }
+        }
+
+        // CodecFactory caches codecs by class name for all factories, so subsequent readers and writers reuse them.
+        final CodecFactory codecFactory;
+        try {
+            codecFactory = new CodecFactory(new Configuration(), ParquetProperties.DEFAULT_PAGE_SIZE);
+        } catch (RuntimeException | LinkageError e) {
+            logger.debug("parquet-android - ParquetWarmUp - warmUpNow: Could not create codec factory.", e);
+            return;
+        }
+        try {
+            for (CompressionCodecName codec : codecs.length == 0 ? new CompressionCodecName[]{CompressionCodecName.SNAPPY} : codecs) {
+                try {
+                    codecFactory.getCompressor(codec.getParquetCodecName());
+                    codecFactory.getDecompressor(codec.getParquetCodecName());
+                } catch (RuntimeException | LinkageError e) {
+                    logger.debug("parquet-android - ParquetWarmUp - warmUpNow: Codec {} is unavailable.", codec, e);
+                }
+            }
+        } finally {
+            codecFactory.release();
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class UnsafeProvider {
      *   3. DirectByteBuffer.memoryRef.free()
      */
     private static int cleanBufferMethod = -1;
+    /** Cleaner detection reflectively probes bytebuffers, so we only do it on first use. */
+    private static volatile boolean cleanerDetected = false;
     private static final int failed = -1;
     private static final int invokeCleaner = 0;
     private static final int byteBufferCleanerClean = 1;
@@ -38,22 +40,38 @@ public class UnsafeProvider {
         Logger logger = LoggerFactory.getLogger("org.sebastiaan.parquet.android");
 
         Unsafe localUnsafeSoStupidJavaUnderstands;
-        boolean gotUnsafe = false;
         try {
             Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
             theUnsafe.setAccessible(true);
             localUnsafeSoStupidJavaUnderstands = (Unsafe) theUnsafe.get(null);
-            gotUnsafe = true;
         } catch (Exception e) {
             localUnsafeSoStupidJavaUnderstands = null;
             logger.warn("parquet-android - UnsafeProvider - static initializer: Could not find Unsafe access. Leaks might occur.", e);
         }
 
         UNSAFE = localUnsafeSoStupidJavaUnderstands;
-        if (!gotUnsafe || (!getUnsafeInvokeCleaner() && !getDirectByteBufferCleanerClean() && !getDirectByteBufferFree() && !getDirectByteBufferMemoryRefFree())) {
-            logger.warn("parquet-android - UnsafeProvider - static initializer: Could not find a suitable bytebuffer cleaner. Leaks might occur.");
+    }
+
+    /**
+     * Detects the bytebuffer cleaner strategy ahead of time, e.g. from a background thread during app startup.
+     * Otherwise, detection happens when the first direct buffer is cleaned.
+     */
+    public static void warmUp() {
+        if (!cleanerDetected)
+            detectCleaner();
+    }
+
+    /** Searches for a suitable bytebuffer cleaner strategy once. The result is cached for all subsequent calls. */
+    private static synchronized void detectCleaner() {
+        if (cleanerDetected)
+            return;
+        // All strategies share a single probe buffer. A strategy only cleans the probe after it succeeded.
+        final ByteBuffer probe = ByteBuffer.allocateDirect(0);
+        if (UNSAFE == null || (!getUnsafeInvokeCleaner() && !getDirectByteBufferCleanerClean(probe) && !getDirectByteBufferFree(probe) && !getDirectByteBufferMemoryRefFree(probe))) {
+            LoggerFactory.getLogger("org.sebastiaan.parquet.android").warn("parquet-android - UnsafeProvider - detectCleaner: Could not find a suitable bytebuffer cleaner. Leaks might occur.");
             cleanBufferMethod = failed;
         }
+        cleanerDetected = true;
     }
 
     /**
@@ -63,6 +81,8 @@ public class UnsafeProvider {
      * @param buffer Buffer to free.
      */
     public static void cleanDirectBuffer(ByteBuffer buffer) {
+        if (!cleanerDetected)
+            detectCleaner();
         if (cleanBufferMethod == failed)
             return;
         try {
@@ -92,8 +112,7 @@ public class UnsafeProvider {
         }
     }
 
-    private static boolean getDirectByteBufferCleanerClean() {
-        final ByteBuffer tmpBuffer = ByteBuffer.allocateDirect(0);
+    private static boolean getDirectByteBufferCleanerClean(ByteBuffer tmpBuffer) {
         try {
             Method localCleaner = tmpBuffer.getClass().getDeclaredMethod("cleaner");
             localCleaner.setAccessible(true);
@@ -110,8 +129,7 @@ public class UnsafeProvider {
         }
     }
 
-    private static boolean getDirectByteBufferFree() {
-        final ByteBuffer tmpBuffer = ByteBuffer.allocateDirect(0);
+    private static boolean getDirectByteBufferFree(ByteBuffer tmpBuffer) {
         try {
             CLEAN_METHOD = tmpBuffer.getClass().getDeclaredMethod("free");
             CLEAN_METHOD.setAccessible(true);
@@ -123,8 +141,7 @@ public class UnsafeProvider {
         }
     }
 
-    private static boolean getDirectByteBufferMemoryRefFree() {
-        final ByteBuffer tmpBuffer = ByteBuffer.allocateDirect(0);
+    private static boolean getDirectByteBufferMemoryRefFree(ByteBuffer tmpBuffer) {
         try {
             // Android JDK DirectByteBuffer may have a memoryRef field with a free() method
             PRECLEAN_FIELD = tmpBuffer.getClass().getDeclaredField("memoryRef");
@@ -0,0 +1,208 @@
+package org.sebastiaan.utils;
+
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide memory budget for all open parquet writers.
+ * Every writer buffers a full row group in memory before flushing it to disk.
+ * With many writers open at once, these buffers together easily exceed the heap Android gives an app.
+ *
+ * Open writers register here with the row group size they would like to use, and receive an {@link Allocation}.
+ * Whenever the sum of requested row group sizes exceeds the budget, every allocation gets scaled down
+ * proportionally, so writers flush their buffers earlier and the total stays within the budget.
+ * Allocations are never scaled below {@link #MIN_ROW_GROUP_SIZE}.
+ *
+ * The manager never touches a writer itself: each writer applies its allocation on its own thread,
+ * using {@link Allocation#apply()} before writing a record.
+ */
+public class WriterMemoryManager {
+    /** Default fraction of the maximum heap size that all writers may use together. */
+    public static final float DEFAULT_BUDGET_RATIO = 0.5f;
+    /** Row group sizes are never scaled below this amount of bytes. */
+    public static final long MIN_ROW_GROUP_SIZE = 1024L * 1024L;
+
+    private static final WriterMemoryManager INSTANCE = new WriterMemoryManager((long) (Runtime.getRuntime().maxMemory() * DEFAULT_BUDGET_RATIO));
+
+    // Keep rules for these members are in consumer-rules.pro.
+    private static final Field WRITER_FIELD;
+    private static final Field COLUMN_STORE_FIELD;
+    private static final Field NEXT_ROW_GROUP_SIZE_FIELD;
+    private static final Method SET_THRESHOLD_METHOD;
+
+    static {
+        Field writerField = null, columnStoreField = null, nextRowGroupSizeField = null;
+        Method setThresholdMethod = null;
+        try {
+            writerField = ParquetWriter.class.getDeclaredField("writer");
+            writerField.setAccessible(true);
+            Class<?> internalWriterClass = writerField.getType();
+            columnStoreField = internalWriterClass.getDeclaredField("columnStore");
+            columnStoreField.setAccessible(true);
+            nextRowGroupSizeField = internalWriterClass.getDeclaredField("nextRowGroupSize");
+            nextRowGroupSizeField.setAccessible(true);
+            setThresholdMethod = internalWriterClass.getDeclaredMethod("setRowGroupSizeThreshold", long.class);
+            setThresholdMethod.setAccessible(true);
+        } catch (Exception e) {
+            writerField = null;
+            LoggerFactory.getLogger("org.sebastiaan.parquet.android").warn("parquet-android - WriterMemoryManager - static initializer: Could not access parquet writer internals. Row group sizes will not be managed.", e);
+        }
+        WRITER_FIELD = writerField;
+        COLUMN_STORE_FIELD = columnStoreField;
+        NEXT_ROW_GROUP_SIZE_FIELD = nextRowGroupSizeField;
+        SET_THRESHOLD_METHOD = setThresholdMethod;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger("org.sebastiaan.parquet.android");
+    /** Maps registered writers to their allocation. */
+    private final Map<ParquetWriter<?>, Allocation> allocations = new IdentityHashMap<>();
+    private long budget;
+
+    private WriterMemoryManager(long budget) {
+        this.budget = budget;
+    }
+
+    /** @return The process-wide memory manager. */
+    public static WriterMemoryManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the amount of bytes all open writers may buffer together, and rescales the allocations of open writers.
+     * Open writers pick up their new allocation when they write their next record.
+     * @param budget Budget in bytes. Use {@link Long#MAX_VALUE} to let every writer use its requested row group size.
+     */
+    public synchronized void setBudget(long budget) {
+        if (budget <= 0)
+            throw new IllegalArgumentException("parquet-android - memory budget must be positive, got "+budget);
+        this.budget = budget;
+        rebalance();
+    }
+
+    /** @return Amount of bytes all open writers may buffer together. */
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns the amount of bytes currently buffered by all open writers.
+     * Buffer sizes are read while their writers keep writing on other threads, so this is a best-effort estimate.
+     * @return Amount of bytes currently buffered by all open writers.
+     */
+    public synchronized long getUsage() {
+        if (WRITER_FIELD == null)
+            return 0L;
+        long usage = 0L;
+        try {
+            for (ParquetWriter<?> writer : allocations.keySet()) {
+                ColumnWriteStore columnStore = (ColumnWriteStore) COLUMN_STORE_FIELD.get(WRITER_FIELD.get(writer));
+                if (columnStore != null)
+                    usage += columnStore.getBufferedSize();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("parquet-android - could not read buffered size of parquet writer", e);
+        }
+        return usage;
+    }
+
+    /** @return Sum of row group sizes currently allocated to open writers. This is the most all writers buffer at once. */
+    public synchronized long getAllocation() {
+        long allocation = 0L;
+        for (Allocation a : allocations.values())
+            allocation += a.size;
+        return allocation;
+    }
+
+    /** @return Amount of currently registered writers. */
+    public synchronized int getWriterCount() {
+        return allocations.size();
+    }
+
+    /**
+     * Registers an open writer, and rescales the allocations of all open writers to fit the budget.
+     * @param writer Writer to register. Must be unregistered using {@link #unregister(Allocation)} when closed.
+     * @param rowGroupSize Row group size the writer was built with.
+     * @return Allocation of given writer. The writer must call {@link Allocation#apply()} before writing its first record.
+     */
+    public synchronized Allocation register(ParquetWriter<?> writer, long rowGroupSize) {
+        if (allocations.containsKey(writer))
+            throw new IllegalArgumentException("parquet-android - writer is already registered");
+        final Allocation allocation = new Allocation(writer, rowGroupSize);
+        allocations.put(writer, allocation);
+        rebalance();
+        return allocation;
+    }
+
+    /**
+     * Unregisters a writer, and gives its memory back to the remaining open writers.
+     * @param allocation Allocation of the writer to unregister. Unregistering an unknown allocation is a no-op.
+     */
+    public synchronized void unregister(Allocation allocation) {
+        if (allocations.remove(allocation.writer) != null)
+            rebalance();
+    }
+
+    /** Scales all allocations with the same factor, such that their sum fits the budget. */
+    private void rebalance() {
+        long requested = 0L;
+        for (Allocation allocation : allocations.values())
+            requested += allocation.requested;
+        final double scale = requested > budget ? (double) budget / requested : 1.0;
+
+        for (Allocation allocation : allocations.values())
+            allocation.size = Math.min(allocation.requested, Math.max(MIN_ROW_GROUP_SIZE, (long) Math.floor(allocation.requested * scale)));
+        if (scale < 1.0)
+            logger.debug("parquet-android - WriterMemoryManager: {} writers requested {} bytes, scaled row group sizes by {} to fit budget of {} bytes.", allocations.size(), requested, scale, budget);
+    }
+
+    /** Row group size allocated to a single writer. */
+    public static final class Allocation {
+        private final ParquetWriter<?> writer;
+        private final long requested;
+        /** Written by the manager, read by the writing thread. */
+        private volatile long size;
+        /** Only accessed by the writing thread. */
+        private long appliedSize;
+
+        private Allocation(ParquetWriter<?> writer, long requested) {
+            this.writer = writer;
+            this.requested = requested;
+            this.size = requested;
+            this.appliedSize = requested;
+        }
+
+        /** @return Row group size currently allocated to the writer. */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Applies the current allocation to the writer, if it changed since the last call.
+         * Must be called from the thread that writes records, so the writer never sees a half-applied row group size.
+         * The writer flushes at its next row group size check, which parquet performs at most every 10000 records.
+         */
+        public void apply() {
+            final long current = size;
+            if (current == appliedSize)
+                return;
+            appliedSize = current;
+            if (WRITER_FIELD == null)
+                return;
+            try {
+                final Object internalWriter = WRITER_FIELD.get(writer);
+                // Parquet only copies its threshold into the size of the current row group after a flush, so we set both.
+                SET_THRESHOLD_METHOD.invoke(internalWriter, current);
+                NEXT_ROW_GROUP_SIZE_FIELD.setLong(internalWriter, current);
+            } catch (Exception e) {
+                throw new RuntimeException("parquet-android - could not set row group size of parquet writer", e);
+            }
+        }
+    }
+}
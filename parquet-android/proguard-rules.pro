@@ -27,4 +27,14 @@
 
 -keep class org.apache.parquet.hadoop.codec.SnappyCodec { *; }
 
--keep class org.apache.parquet.column.values.** { *; }
\ No newline at end of file
+-keep class org.apache.parquet.column.values.** { *; }
+
+# WriterMemoryManager reflectively reads and sets row group sizes of parquet writers.
+-keepclassmembers class org.apache.parquet.hadoop.ParquetWriter {
+    private final org.apache.parquet.hadoop.InternalParquetRecordWriter writer;
+}
+-keepclassmembers class org.apache.parquet.hadoop.InternalParquetRecordWriter {
+    private org.apache.parquet.column.ColumnWriteStore columnStore;
+    private long nextRowGroupSize;
+    void setRowGroupSizeThreshold(long);
+}
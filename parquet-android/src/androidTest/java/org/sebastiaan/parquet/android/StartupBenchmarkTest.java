@@ -0,0 +1,105 @@
+package org.sebastiaan.parquet.android;
+
+import android.util.Log;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sebastiaan.testutils.Row;
+import org.sebastiaan.utils.ParquetWarmUp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import blue.strategic.parquet.CompressionCodecName;
+import blue.strategic.parquet.HydratorSupplier;
+import blue.strategic.parquet.ParquetReader;
+import blue.strategic.parquet.ParquetWriter;
+
+/**
+ * Measures time-to-first-row for writing and reading, with and without {@link ParquetWarmUp}.
+ * Results are logged with tag `parquet-android`.
+ *
+ * Instrumented tests share a single process, so a measurement is only cold if no test used parquet before it.
+ * For cold numbers, run each test alone in a fresh process, e.g.:
+ * `./gradlew connectedDebugAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=org.sebastiaan.parquet.android.StartupBenchmarkTest#timeToFirstRow`
+ * When run together with other tests, the first-use numbers are labelled as possibly warm.
+ */
+class StartupBenchmarkTest {
+    static final int warmRuns = 5;
+    /** Set once any test in this class used parquet. Tests in other classes may have used it as well. */
+    static boolean parquetUsed = false;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void timeToFirstRow() throws IOException {
+        final String label = firstUseLabel();
+        final File file = Files.createFile(tempDir.resolve("first.parquet")).toFile();
+        Log.i("parquet-android", "StartupBenchmark: " + label + " write time-to-first-row without warm-up: " + timeToFirstWrite(file) / 1000 + "us");
+        Log.i("parquet-android", "StartupBenchmark: " + label + " read time-to-first-row without warm-up: " + timeToFirstRead(file) / 1000 + "us");
+        logWarmRuns();
+    }
+
+    @Test
+    void timeToFirstRowAfterWarmUp() throws IOException, InterruptedException {
+        final String label = firstUseLabel();
+        final long warmUpStart = System.nanoTime();
+        ParquetWarmUp.warmUp(CompressionCodecName.SNAPPY).join();
+        Log.i("parquet-android", "StartupBenchmark: " + label + " warm-up: " + (System.nanoTime() - warmUpStart) / 1000 + "us");
+
+        final File file = Files.createFile(tempDir.resolve("first.parquet")).toFile();
+        Log.i("parquet-android", "StartupBenchmark: " + label + " write time-to-first-row after warm-up: " + timeToFirstWrite(file) / 1000 + "us");
+        Log.i("parquet-android", "StartupBenchmark: " + label + " read time-to-first-row after warm-up: " + timeToFirstRead(file) / 1000 + "us");
+        logWarmRuns();
+    }
+
+    /** @return Label for the first measurement of a test. Without a fresh process, we cannot tell whether parquet is still cold. */
+    private static String firstUseLabel() {
+        final String label = parquetUsed ? "warm (measured after another benchmark)" : "first-use (cold only in a fresh process)";
+        parquetUsed = true;
+        return label;
+    }
+
+    /** Logs average time-to-first-row once everything is initialized. */
+    private void logWarmRuns() throws IOException {
+        long writeTotal = 0L, readTotal = 0L;
+        for (int i = 0; i < warmRuns; ++i) {
+            final File warmFile = Files.createFile(tempDir.resolve("warm" + i + ".parquet")).toFile();
+            writeTotal += timeToFirstWrite(warmFile);
+            readTotal += timeToFirstRead(warmFile);
+        }
+        Log.i("parquet-android", "StartupBenchmark: warm write time-to-first-row: " + writeTotal / warmRuns / 1000 + "us");
+        Log.i("parquet-android", "StartupBenchmark: warm read time-to-first-row: " + readTotal / warmRuns / 1000 + "us");
+    }
+
+    /** @return Nanoseconds between opening a writer and having written its first row. The remaining data is written afterwards. */
+    private static long timeToFirstWrite(File file) throws IOException {
+        final long start = System.nanoTime();
+        final long end;
+        try(ParquetWriter<Row> parquetWriter = ParquetWriter.writeFile(Row.schema, file, AndroidParquetTest.getRowDehydrator(), CompressionCodecName.SNAPPY)) {
+            parquetWriter.write(AndroidParquetTest.data.get(0));
+            end = System.nanoTime();
+            for (Row datum : AndroidParquetTest.data.subList(1, AndroidParquetTest.data.size())) {
+                parquetWriter.write(datum);
+            }
+        }
+        return end - start;
+    }
+
+    /** @return Nanoseconds between opening a reader and having read its first row. */
+    private static long timeToFirstRead(File file) throws IOException {
+        final long start = System.nanoTime();
+        try(Stream<Row> readStream = ParquetReader.streamContent(file, HydratorSupplier.constantly(AndroidParquetTest.getRowHydrator()))) {
+            Optional<Row> first = readStream.findFirst();
+            final long end = System.nanoTime();
+            Assertions.assertEquals(Optional.of(AndroidParquetTest.data.get(0)), first);
+            return end - start;
+        }
+    }
+}
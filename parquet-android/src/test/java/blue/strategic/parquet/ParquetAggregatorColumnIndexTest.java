@@ -0,0 +1,65 @@
+package blue.strategic.parquet;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.internal.column.columnindex.BoundaryOrder;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests the column index fallback of {@link ParquetAggregator}.
+ * Our writer always writes complete chunk statistics for non-binary columns, so this fallback cannot be reached through a written file.
+ */
+class ParquetAggregatorColumnIndexTest {
+    static final PrimitiveType type = Types.optional(PrimitiveType.PrimitiveTypeName.INT32).named("value");
+
+    @Test
+    void mergesColumnIndexPages() {
+        final ColumnIndexBuilder builder = ColumnIndexBuilder.getBuilder(type, Integer.MAX_VALUE);
+        builder.add(pageStatistics(2, 5, 10));
+        builder.add(pageStatistics(3)); // null page
+        builder.add(pageStatistics(0, -3, 4));
+
+        final Statistics<?> statistics = ParquetAggregator.readColumnIndexStatistics(builder.build(), type);
+        Assertions.assertNotNull(statistics);
+        Assertions.assertEquals(-3, statistics.genericGetMin());
+        Assertions.assertEquals(10, statistics.genericGetMax());
+        Assertions.assertEquals(5, statistics.getNumNulls());
+    }
+
+    @Test
+    void allNullColumnIndex() {
+        final ColumnIndexBuilder builder = ColumnIndexBuilder.getBuilder(type, Integer.MAX_VALUE);
+        builder.add(pageStatistics(4));
+        builder.add(pageStatistics(1));
+
+        final Statistics<?> statistics = ParquetAggregator.readColumnIndexStatistics(builder.build(), type);
+        Assertions.assertNotNull(statistics);
+        Assertions.assertFalse(statistics.hasNonNullValue());
+        Assertions.assertEquals(5, statistics.getNumNulls());
+    }
+
+    @Test
+    void columnIndexWithoutNullCountsIsUnusable() {
+        final ByteBuffer value = ByteBuffer.allocate(4).putInt(0, Integer.reverseBytes(7));
+        final ColumnIndex columnIndex = ColumnIndexBuilder.build(type, BoundaryOrder.UNORDERED, Collections.singletonList(false), null, Collections.singletonList(value), Collections.singletonList(value));
+
+        Assertions.assertNull(ParquetAggregator.readColumnIndexStatistics(columnIndex, type));
+        Assertions.assertNull(ParquetAggregator.readColumnIndexStatistics(null, type));
+    }
+
+    /** @return Statistics of a single page containing given amount of nulls, and given non-null values. */
+    private static Statistics<?> pageStatistics(long numNulls, int... values) {
+        final Statistics<?> statistics = Statistics.createStats(type);
+        statistics.incrementNumNulls(numNulls);
+        Arrays.stream(values).forEach(statistics::updateStats);
+        return statistics;
+    }
+}
@@ -0,0 +1,184 @@
+package org.sebastiaan.parquet.android;
+
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sebastiaan.testutils.MetadataHelper;
+import org.sebastiaan.testutils.Row;
+import org.sebastiaan.utils.WriterMemoryManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import blue.strategic.parquet.CompressionCodecName;
+import blue.strategic.parquet.Dehydrator;
+import blue.strategic.parquet.ParquetAggregator;
+import blue.strategic.parquet.ParquetWriter;
+
+/**
+ * Tests whether aggregates computed from file metadata match the written data.
+ */
+class ParquetAggregatorTest {
+    /** Parquet drops chunk min/max statistics for values larger than 4KB. */
+    static final int largeValueLength = 5000;
+    static final int numNullableRows = 300;
+    /** Schema with nullable columns. Column `missing` is never written, so it contains only nulls. */
+    static final MessageType nullableSchema = Types.buildMessage()
+            .required(PrimitiveType.PrimitiveTypeName.INT64).named("id")
+            .optional(PrimitiveType.PrimitiveTypeName.INT32).named("value")
+            .optional(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("text")
+            .optional(PrimitiveType.PrimitiveTypeName.INT32).named("missing")
+            .named("nullableTable");
+    /** Rows with ~100 byte names, such that data spans multiple row groups of {@link WriterMemoryManager#MIN_ROW_GROUP_SIZE}. */
+    static final int numLargeRows = 40000;
+    static final List<Row> largeData;
+
+    static {
+        List<Row> rows = new ArrayList<>(numLargeRows);
+        for (int i = 0; i < numLargeRows; ++i) {
+            rows.add(new Row(i, "KingHenryThe"+i+"x".repeat(80), 18+(i%10)));
+        }
+        largeData = rows;
+    }
+
+    @TempDir
+    Path tempDir;
+
+    long originalBudget;
+
+    @BeforeEach
+    void storeBudget() {
+        originalBudget = WriterMemoryManager.getInstance().getBudget();
+    }
+
+    @AfterEach
+    void restoreBudget() {
+        WriterMemoryManager.getInstance().setBudget(originalBudget);
+    }
+
+    @Test
+    void aggregateParquet() throws IOException {
+        final File file = write(ParquetTest.data);
+
+        Assertions.assertEquals(ParquetTest.numRows, ParquetAggregator.count(file));
+        Assertions.assertEquals(0L, ParquetAggregator.min(file, "id"));
+        Assertions.assertEquals((long) ParquetTest.numRows - 1, ParquetAggregator.max(file, "id"));
+        Assertions.assertEquals(18, ParquetAggregator.min(file, "age"));
+        Assertions.assertEquals(27, ParquetAggregator.max(file, "age"));
+        Assertions.assertEquals("KingHenryThe999", ParquetAggregator.max(file, "name"));
+        Assertions.assertEquals(0L, ParquetAggregator.nullCount(file, "name"));
+    }
+
+    @Test
+    void aggregateLargeBinaryParquet() throws IOException {
+        final List<Row> rows = List.of(
+                new Row(0, "b".repeat(largeValueLength), 18),
+                new Row(1, "a".repeat(largeValueLength), 19),
+                new Row(2, "c".repeat(largeValueLength), 20));
+        final File file = write(rows);
+
+        // Ensures we test the page decoding fallback.
+        for (BlockMetaData block : MetadataHelper.readRowGroups(file))
+            for (ColumnChunkMetaData chunk : block.getColumns())
+                if (chunk.getPath().toDotString().equals("name"))
+                    Assertions.assertFalse(chunk.getStatistics().hasNonNullValue());
+
+        Assertions.assertEquals("a".repeat(largeValueLength), ParquetAggregator.min(file, "name"));
+        Assertions.assertEquals("c".repeat(largeValueLength), ParquetAggregator.max(file, "name"));
+        Assertions.assertEquals(0L, ParquetAggregator.nullCount(file, "name"));
+    }
+
+    @Test
+    void aggregateNullableParquet() throws IOException {
+        final File file = Files.createFile(tempDir.resolve("test.parquet")).toFile();
+        // `value` is null for every third row, `text` (larger than 4KB, so decoded from pages) for every other row.
+        final Dehydrator<Long> dehydrator = (id, valueWriter) -> {
+            valueWriter.write("id", id);
+            if (id % 3 != 0)
+                valueWriter.write("value", (int) (id * 2));
+            if (id % 2 != 0)
+                valueWriter.write("text", id + "x".repeat(largeValueLength));
+        };
+        try(ParquetWriter<Long> parquetWriter = ParquetWriter.writeFile(nullableSchema, file, dehydrator, CompressionCodecName.UNCOMPRESSED)) {
+            for (long id = 0; id < numNullableRows; ++id) {
+                parquetWriter.write(id);
+            }
+        }
+
+        ParquetAggregator.ColumnAggregate value = ParquetAggregator.aggregate(file, "value");
+        Assertions.assertEquals(numNullableRows / 3, value.getNullCount());
+        Assertions.assertEquals(2, value.getMin());
+        Assertions.assertEquals((numNullableRows - 1) * 2, value.getMax());
+
+        ParquetAggregator.ColumnAggregate text = ParquetAggregator.aggregate(file, "text");
+        Assertions.assertEquals(numNullableRows / 2, text.getNullCount());
+        Assertions.assertEquals("101" + "x".repeat(largeValueLength), text.getMin());
+        Assertions.assertEquals("9" + "x".repeat(largeValueLength), text.getMax());
+
+        ParquetAggregator.ColumnAggregate missing = ParquetAggregator.aggregate(file, "missing");
+        Assertions.assertEquals(numNullableRows, missing.getNullCount());
+        Assertions.assertNull(missing.getMin());
+        Assertions.assertNull(missing.getMax());
+        Assertions.assertEquals(numNullableRows, missing.getRowCount());
+    }
+
+    @Test
+    void aggregateFilteredParquet() throws IOException {
+        final File file = write(ParquetTest.data);
+
+        Assertions.assertEquals(ParquetTest.numRows, ParquetAggregator.count(file, FilterCompat.get(FilterApi.lt(FilterApi.longColumn("id"), 10L))));
+        Assertions.assertEquals(0L, ParquetAggregator.count(file, FilterCompat.get(FilterApi.gt(FilterApi.longColumn("id"), (long) ParquetTest.numRows))));
+
+        ParquetAggregator.ColumnAggregate aggregate = ParquetAggregator.aggregate(file, "age", FilterCompat.get(FilterApi.gt(FilterApi.longColumn("id"), (long) ParquetTest.numRows)));
+        Assertions.assertNull(aggregate.getMin());
+        Assertions.assertNull(aggregate.getMax());
+        Assertions.assertEquals(0L, aggregate.getRowCount());
+    }
+
+    @Test
+    void aggregateFilteredMultipleRowGroupParquet() throws IOException {
+        WriterMemoryManager.getInstance().setBudget(1); // smallest row group size, so our data spans multiple row groups
+        final File file = write(largeData);
+        final List<BlockMetaData> rowGroups = MetadataHelper.readRowGroups(file);
+        Assertions.assertTrue(rowGroups.size() > 1);
+
+        final long total = numLargeRows;
+        final FilterCompat.Filter first = FilterCompat.get(FilterApi.lt(FilterApi.longColumn("id"), 10L));
+        final FilterCompat.Filter last = FilterCompat.get(FilterApi.gtEq(FilterApi.longColumn("id"), total - 10));
+        Assertions.assertEquals(total, ParquetAggregator.count(file));
+        Assertions.assertEquals(rowGroups.get(0).getRowCount(), ParquetAggregator.count(file, first));
+        Assertions.assertEquals(rowGroups.get(rowGroups.size() - 1).getRowCount(), ParquetAggregator.count(file, last));
+
+        ParquetAggregator.ColumnAggregate firstIds = ParquetAggregator.aggregate(file, "id", first);
+        Assertions.assertEquals(0L, firstIds.getMin());
+        Assertions.assertEquals(rowGroups.get(0).getRowCount() - 1, firstIds.getMax());
+
+        ParquetAggregator.ColumnAggregate lastIds = ParquetAggregator.aggregate(file, "id", last);
+        Assertions.assertEquals(total - rowGroups.get(rowGroups.size() - 1).getRowCount(), lastIds.getMin());
+        Assertions.assertEquals(total - 1, lastIds.getMax());
+    }
+
+    private File write(List<Row> rows) throws IOException {
+        final Path tempFile = Files.createFile(tempDir.resolve("test.parquet"));
+        try(ParquetWriter<Row> parquetWriter = ParquetWriter.writeFile(Row.schema, tempFile.toFile(), ParquetTest.getRowDehydrator(), CompressionCodecName.UNCOMPRESSED)) {
+            for (Row datum : rows) {
+                parquetWriter.write(datum);
+            }
+        }
+        return tempFile.toFile();
+    }
+}
@@ -0,0 +1,124 @@
+package org.sebastiaan.parquet.android;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sebastiaan.testutils.AssertHelper;
+import org.sebastiaan.testutils.MetadataHelper;
+import org.sebastiaan.testutils.Row;
+import org.sebastiaan.utils.WriterMemoryManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import blue.strategic.parquet.CompressionCodecName;
+import blue.strategic.parquet.HydratorSupplier;
+import blue.strategic.parquet.ParquetWriter;
+
+/**
+ * Tests whether concurrently open writers share the process-wide memory budget.
+ */
+class WriterMemoryManagerTest {
+    static final int numWriters = 4;
+    static final long rowGroupSize = org.apache.parquet.hadoop.ParquetWriter.DEFAULT_BLOCK_SIZE;
+    /** Rows with ~100 byte names, such that every writer buffers a few times {@link WriterMemoryManager#MIN_ROW_GROUP_SIZE}. */
+    static final int numLargeRows = 40000;
+    static final List<Row> largeData;
+
+    static {
+        List<Row> rows = new ArrayList<>(numLargeRows);
+        for (int i = 0; i < numLargeRows; ++i) {
+            rows.add(new Row(i, "KingHenryThe"+i+"x".repeat(80)+Integer.toString(i * 31, 36), 18+(i%10)));
+        }
+        largeData = rows;
+    }
+
+    @TempDir
+    Path tempDir;
+
+    long originalBudget;
+
+    @BeforeEach
+    void storeBudget() {
+        originalBudget = WriterMemoryManager.getInstance().getBudget();
+    }
+
+    @AfterEach
+    void restoreBudget() {
+        WriterMemoryManager.getInstance().setBudget(originalBudget);
+    }
+
+    @Test
+    void concurrentWritersShareBudget() throws IOException {
+        final WriterMemoryManager manager = WriterMemoryManager.getInstance();
+        final long budget = 2 * rowGroupSize;
+        manager.setBudget(budget);
+
+        final List<Path> files = new ArrayList<>(numWriters);
+        final List<ParquetWriter<Row>> writers = new ArrayList<>(numWriters);
+        try {
+            for (int i = 0; i < numWriters; ++i) {
+                files.add(Files.createFile(tempDir.resolve("test"+i+".parquet")));
+                writers.add(ParquetWriter.writeFile(Row.schema, files.get(i).toFile(), ParquetTest.getRowDehydrator(), CompressionCodecName.UNCOMPRESSED));
+            }
+            Assertions.assertEquals(numWriters, manager.getWriterCount());
+            Assertions.assertEquals(budget, manager.getAllocation());
+
+            for (Row datum : ParquetTest.data)
+                for (ParquetWriter<Row> writer : writers)
+                    writer.write(datum);
+            Assertions.assertTrue(manager.getUsage() > 0);
+
+            manager.setBudget(Long.MAX_VALUE);
+            Assertions.assertEquals(numWriters * rowGroupSize, manager.getAllocation());
+        } finally {
+            for (ParquetWriter<Row> writer : writers)
+                writer.close();
+        }
+
+        Assertions.assertEquals(0, manager.getWriterCount());
+        Assertions.assertEquals(0, manager.getUsage());
+        for (Path file : files)
+            AssertHelper.assertWritten(ParquetTest.data, file, HydratorSupplier.constantly(ParquetTest.getRowHydrator()));
+    }
+
+    @Test
+    void smallBudgetFlushesRowGroupsEarly() throws IOException {
+        final WriterMemoryManager manager = WriterMemoryManager.getInstance();
+        manager.setBudget(1); // every writer gets the minimum row group size
+        final long usageLimit = numWriters * 2 * WriterMemoryManager.MIN_ROW_GROUP_SIZE; // minimum size, plus slack between size checks
+
+        final List<Path> files = new ArrayList<>(numWriters);
+        final List<ParquetWriter<Row>> writers = new ArrayList<>(numWriters);
+        long peakUsage = 0L;
+        try {
+            for (int i = 0; i < numWriters; ++i) {
+                files.add(Files.createFile(tempDir.resolve("test"+i+".parquet")));
+                writers.add(ParquetWriter.writeFile(Row.schema, files.get(i).toFile(), ParquetTest.getRowDehydrator(), CompressionCodecName.UNCOMPRESSED));
+            }
+            Assertions.assertEquals(numWriters * WriterMemoryManager.MIN_ROW_GROUP_SIZE, manager.getAllocation());
+
+            for (int i = 0; i < numLargeRows; ++i) {
+                for (ParquetWriter<Row> writer : writers)
+                    writer.write(largeData.get(i));
+                if (i % 1000 == 0)
+                    peakUsage = Math.max(peakUsage, manager.getUsage());
+            }
+        } finally {
+            for (ParquetWriter<Row> writer : writers)
+                writer.close();
+        }
+
+        Assertions.assertTrue(peakUsage > 0);
+        Assertions.assertTrue(peakUsage <= usageLimit, "peak usage "+peakUsage+" exceeds "+usageLimit);
+        for (Path file : files) {
+            Assertions.assertTrue(MetadataHelper.readRowGroups(file.toFile()).size() > 1);
+            AssertHelper.assertWritten(largeData, file, HydratorSupplier.constantly(ParquetTest.getRowHydrator()));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.sebastiaan.testutils;
+
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.sebastiaan.utils.LocalInputFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class MetadataHelper {
+    /** @return Row group metadata of given file, read from its footer. */
+    public static List<BlockMetaData> readRowGroups(File file) throws IOException {
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            return reader.getRowGroups();
+        }
+    }
+}